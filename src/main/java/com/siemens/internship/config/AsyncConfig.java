@@ -1,16 +1,24 @@
 package com.siemens.internship.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 //AsyncConfig class configures a thread pool for handling asynchronous tasks in a Spring application
+//Scheduling is enabled for background processing of pending items, which runs its batches on this pool
 public class AsyncConfig {
 
+    //Upper bound on how long shutdown waits for queued and running tasks to finish
+    @Value("${items.processing.executor-await-termination-seconds:30}")
+    private int awaitTerminationSeconds;
+
     @Bean
     public TaskExecutor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -18,6 +26,9 @@ public class AsyncConfig {
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(25);
         executor.setThreadNamePrefix("ItemProcessor-");
+        // Let in-flight processing drain on shutdown instead of interrupting it mid-run
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(awaitTerminationSeconds);
         executor.initialize();
         return executor;
     }
@@ -0,0 +1,75 @@
+package com.siemens.internship.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+//Tracks a time-decayed moving average of request latency for the endpoints it is registered on
+//Used by background processing to back off when interactive requests slow down
+//The average halves every half-life without new samples, so an idle period lets processing recover
+@Component
+public class RequestLatencyTracker implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RequestLatencyTracker.class.getName() + ".start";
+
+    //Weight of the newest sample in the moving average when samples arrive back to back
+    private static final double ALPHA = 0.2;
+
+    @Value("${items.processing.scheduler.request-latency-half-life-ms:5000}")
+    private long halfLifeMs = 5000;
+
+    private LongSupplier nanoClock = System::nanoTime;
+
+    private boolean hasSamples;
+    private double averageLatencyMs;
+    private long lastSampleNanos;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, nanoClock.getAsLong());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start instanceof Long startNanos) {
+            record((nanoClock.getAsLong() - startNanos) / 1_000_000.0);
+        }
+    }
+
+    public synchronized void record(double latencyMs) {
+        long now = nanoClock.getAsLong();
+        if (!hasSamples) {
+            averageLatencyMs = latencyMs;
+            hasSamples = true;
+        } else {
+            // The older the current average, the less weight it keeps against the new sample
+            double oldWeight = (1 - ALPHA) * decayFactor(now);
+            averageLatencyMs = oldWeight * averageLatencyMs + (1 - oldWeight) * latencyMs;
+        }
+        lastSampleNanos = now;
+    }
+
+    //Average latency decayed by the time since the last sample, 0 if no request has been seen yet
+    public synchronized double getAverageLatencyMs() {
+        if (!hasSamples) {
+            return 0;
+        }
+        return averageLatencyMs * decayFactor(nanoClock.getAsLong());
+    }
+
+    public synchronized boolean hasSamples() {
+        return hasSamples;
+    }
+
+    private double decayFactor(long nowNanos) {
+        double elapsedMs = TimeUnit.NANOSECONDS.toMillis(nowNanos - lastSampleNanos);
+        return Math.pow(0.5, elapsedMs / Math.max(1, halfLifeMs));
+    }
+}
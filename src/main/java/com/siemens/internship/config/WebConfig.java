@@ -0,0 +1,22 @@
+package com.siemens.internship.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+//WebConfig registers MVC interceptors for the item endpoints
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RequestLatencyTracker requestLatencyTracker;
+
+    //Only the CRUD endpoints count towards the latency target, not processing or scheduler controls
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestLatencyTracker)
+                .addPathPatterns("/api/items", "/api/items/*")
+                .excludePathPatterns("/api/items/process", "/api/items/scheduler", "/api/items/scheduler/**");
+    }
+}
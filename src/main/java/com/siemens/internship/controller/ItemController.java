@@ -1,12 +1,15 @@
 package com.siemens.internship.controller;
 
 import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingDrainCoordinator;
 import com.siemens.internship.model.Item;
 import com.siemens.internship.exception.ResourceNotFoundException;
+import com.siemens.internship.exception.ServiceUnavailableException;
 import com.siemens.internship.validator.EmailValidator;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
@@ -18,11 +21,18 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/items")
 public class ItemController {
 
+    //Media type written by Jackson's Smile converter
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ProcessingDrainCoordinator drainCoordinator;
+
     //ResponseEntity with the list of items and HTTP status 200 (OK)
-    @GetMapping
+    //JSON by default, CBOR or Smile when requested through the Accept header
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<List<Item>> getAllItems() {
         return new ResponseEntity<>(itemService.findAll(), HttpStatus.OK);
     }
@@ -89,11 +99,20 @@ public class ItemController {
     }
 
      //ResponseEntity with a list of processed items and HTTP status 200 (OK)
-    @GetMapping("/process")
+     //JSON by default, CBOR or Smile when requested through the Accept header
+    @GetMapping(value = "/process",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    //HTTP status 503 (SERVICE_UNAVAILABLE) once the application has started shutting down
     public ResponseEntity<List<Item>> processItems() {
+        if (!drainCoordinator.isAdmitting()) {
+            throw new ServiceUnavailableException("Shutting down, not accepting new processing work");
+        }
         try {
             List<Item> processedItems = itemService.processItemsAsync();
             return new ResponseEntity<>(processedItems, HttpStatus.OK);
+        } catch (ServiceUnavailableException e) {
+            // Shutdown started while the items were being registered
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to process items", e);
         }
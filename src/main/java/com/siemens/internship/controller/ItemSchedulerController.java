@@ -0,0 +1,36 @@
+package com.siemens.internship.controller;
+
+import com.siemens.internship.service.ItemProcessingScheduler;
+import com.siemens.internship.service.ItemProcessingScheduler.SchedulerStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/items/scheduler")
+public class ItemSchedulerController {
+
+    @Autowired
+    private ItemProcessingScheduler itemProcessingScheduler;
+
+    //ResponseEntity with the current scheduler state and HTTP status 200 (OK)
+    @GetMapping
+    public ResponseEntity<SchedulerStatus> getStatus() {
+        return new ResponseEntity<>(itemProcessingScheduler.getStatus(), HttpStatus.OK);
+    }
+
+    //Stops new batches from starting; ResponseEntity with the scheduler state and HTTP status 200 (OK)
+    @PostMapping("/pause")
+    public ResponseEntity<SchedulerStatus> pause() {
+        itemProcessingScheduler.pause();
+        return new ResponseEntity<>(itemProcessingScheduler.getStatus(), HttpStatus.OK);
+    }
+
+    //Lets batches start again on the next run; ResponseEntity with the scheduler state and HTTP status 200 (OK)
+    @PostMapping("/resume")
+    public ResponseEntity<SchedulerStatus> resume() {
+        itemProcessingScheduler.resume();
+        return new ResponseEntity<>(itemProcessingScheduler.getStatus(), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,16 @@
+package com.siemens.internship.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+//Exception thrown when the application cannot accept new work, e.g. while shutting down
+//Maps to HTTP status 503 (SERVICE_UNAVAILABLE)
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+//ID of an item whose processing was cut off by a shutdown
+//Written while draining so the next instance can resume these items without scanning the Item table
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProcessingCheckpoint {
+    @Id
+    private Long itemId;
+
+    private Instant checkpointedAt;
+}
@@ -1,12 +1,18 @@
 package com.siemens.internship.repository;
 
 import com.siemens.internship.model.Item;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("SELECT id FROM Item")
     List<Long> findAllIds();
+
+    //IDs of items not yet processed, after the given ID and in ID order, so callers can page through them
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterId AND (i.status IS NULL OR i.status <> 'PROCESSED') ORDER BY i.id")
+    List<Long> findPendingIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
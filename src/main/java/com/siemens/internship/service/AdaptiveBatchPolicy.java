@@ -0,0 +1,77 @@
+package com.siemens.internship.service;
+
+/**
+ * AIMD (additive increase, multiplicative decrease) controller for background batch processing.
+ *
+ * After each batch the observed signals are compared against their targets:
+ * 1. If the batch ran within its latency target, CRUD requests stayed within theirs and the
+ *    database pool has headroom, batch size grows by a fixed step and concurrency by one
+ * 2. Otherwise both are halved, never dropping below their configured minimums
+ *
+ * This probes for the highest throughput the system sustains and backs off quickly under contention.
+ */
+public class AdaptiveBatchPolicy {
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int batchSizeStep;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final long targetBatchLatencyMs;
+    private final double targetRequestLatencyMs;
+    private final double maxPoolUtilisation;
+
+    private int batchSize;
+    private int concurrency;
+
+    public AdaptiveBatchPolicy(int minBatchSize, int maxBatchSize, int batchSizeStep,
+                               int minConcurrency, int maxConcurrency,
+                               long targetBatchLatencyMs, double targetRequestLatencyMs,
+                               double maxPoolUtilisation) {
+        if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("Batch size bounds must satisfy 1 <= min <= max");
+        }
+        if (minConcurrency < 1 || maxConcurrency < minConcurrency) {
+            throw new IllegalArgumentException("Concurrency bounds must satisfy 1 <= min <= max");
+        }
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizeStep = Math.max(1, batchSizeStep);
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.targetBatchLatencyMs = targetBatchLatencyMs;
+        this.targetRequestLatencyMs = targetRequestLatencyMs;
+        this.maxPoolUtilisation = maxPoolUtilisation;
+        this.batchSize = minBatchSize;
+        this.concurrency = minConcurrency;
+    }
+
+    /**
+     * Adjusts batch size and concurrency from the signals observed for the last batch.
+     *
+     * @param batchLatencyMs wall-clock time the batch took
+     * @param requestLatencyMs recent average latency of the CRUD endpoints
+     * @param poolUtilisation fraction of database connections in use, between 0 and 1
+     */
+    public synchronized void onBatchCompleted(long batchLatencyMs, double requestLatencyMs, double poolUtilisation) {
+        boolean congested = batchLatencyMs > targetBatchLatencyMs
+                || requestLatencyMs > targetRequestLatencyMs
+                || poolUtilisation > maxPoolUtilisation;
+
+        if (congested) {
+            batchSize = Math.max(minBatchSize, batchSize / 2);
+            concurrency = Math.max(minConcurrency, concurrency / 2);
+        } else {
+            batchSize = Math.min(maxBatchSize, batchSize + batchSizeStep);
+            concurrency = Math.min(maxConcurrency, concurrency + 1);
+        }
+    }
+
+    public synchronized int getBatchSize() {
+        return batchSize;
+    }
+
+    public synchronized int getConcurrency() {
+        return concurrency;
+    }
+}
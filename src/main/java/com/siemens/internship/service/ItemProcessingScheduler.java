@@ -0,0 +1,217 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.RequestLatencyTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically drains items that are not yet processed, in batches sized by an {@link AdaptiveBatchPolicy}.
+ *
+ * Each run pages through the pending items in ID order, so items that keep failing are retried on the
+ * next run instead of blocking the current one. Between batches the policy is fed the batch latency,
+ * the CRUD request latency and the peak database pool utilisation sampled while the batch ran. The scheduler can be paused and resumed
+ * at runtime; a batch already running is allowed to finish. No new batch starts once shutdown has begun.
+ *
+ * Each run first resumes items checkpointed by a drained instance, which also clears the checkpoint rows
+ * of items that have been processed since. Checkpoints only outlive an instance with a persistent database.
+ */
+@Service
+public class ItemProcessingScheduler {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private RequestLatencyTracker requestLatencyTracker;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ProcessingDrainCoordinator drainCoordinator;
+
+    //How often the connection pool is sampled while a batch runs
+    private static final long POOL_SAMPLE_INTERVAL_MS = 20;
+
+    //How long a run waits for its batch before leaving it to finish in the background
+    private long batchTimeoutMs = TimeUnit.SECONDS.toMillis(ItemService.BATCH_TIMEOUT_SECONDS);
+
+    @Value("${items.processing.scheduler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${items.processing.scheduler.min-batch-size:10}")
+    private int minBatchSize;
+
+    @Value("${items.processing.scheduler.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${items.processing.scheduler.batch-size-step:10}")
+    private int batchSizeStep;
+
+    @Value("${items.processing.scheduler.min-concurrency:1}")
+    private int minConcurrency;
+
+    @Value("${items.processing.scheduler.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${items.processing.scheduler.target-batch-latency-ms:2000}")
+    private long targetBatchLatencyMs;
+
+    @Value("${items.processing.scheduler.target-request-latency-ms:200}")
+    private double targetRequestLatencyMs;
+
+    @Value("${items.processing.scheduler.max-pool-utilisation:0.75}")
+    private double maxPoolUtilisation;
+
+    private final AtomicBoolean paused = new AtomicBoolean();
+    private final AtomicLong processedTotal = new AtomicLong();
+    private volatile long lastBatchLatencyMs;
+    private volatile double lastPoolUtilisation;
+
+    //A batch that timed out but is still running; no new batch starts until it has finished
+    private volatile CompletableFuture<?> outstandingBatch;
+
+    private AdaptiveBatchPolicy policy;
+
+    @PostConstruct
+    void init() {
+        policy = new AdaptiveBatchPolicy(minBatchSize, maxBatchSize, batchSizeStep,
+                minConcurrency, maxConcurrency,
+                targetBatchLatencyMs, targetRequestLatencyMs, maxPoolUtilisation);
+        // A disabled scheduler starts paused and can still be resumed at runtime
+        paused.set(!enabled);
+    }
+
+    @Scheduled(fixedDelayString = "${items.processing.scheduler.interval-ms:5000}",
+            initialDelayString = "${items.processing.scheduler.initial-delay-ms:5000}")
+    public void drainPendingItems() {
+        if (paused.get() || !drainCoordinator.isAdmitting()) {
+            return;
+        }
+        CompletableFuture<?> outstanding = outstandingBatch;
+        if (outstanding != null) {
+            if (!outstanding.isDone()) {
+                // Its items are still pending, so submitting them again would only pile up duplicate work
+                return;
+            }
+            outstandingBatch = null;
+        }
+        try {
+            itemService.resumeCheckpointedItems();
+        } catch (Exception e) {
+            // The checkpoint rows are kept and retried on the next run
+            System.err.println("Resuming checkpointed items failed: " + e.getMessage());
+        }
+
+        long afterId = 0;
+        while (!paused.get() && drainCoordinator.isAdmitting()) {
+            List<Long> ids = itemService.findPendingIds(afterId, policy.getBatchSize());
+            if (ids.isEmpty()) {
+                return;
+            }
+            afterId = ids.get(ids.size() - 1);
+
+            long start = System.nanoTime();
+            double peakPoolUtilisation;
+            CompletableFuture<ItemService.BatchResult> batch = null;
+            try {
+                batch = itemService.submitBatch(ids, policy.getConcurrency());
+                peakPoolUtilisation = awaitSamplingPool(batch, start);
+                processedTotal.addAndGet(batch.join().processedItems().size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                holdIfRunning(batch);
+                return;
+            } catch (Exception e) {
+                // Treat a failed batch as congestion and leave the rest for the next run
+                System.err.println("Scheduled batch processing failed: " + e.getMessage());
+                holdIfRunning(batch);
+                policy.onBatchCompleted(Long.MAX_VALUE, requestLatencyTracker.getAverageLatencyMs(), poolUtilisation());
+                return;
+            }
+            lastBatchLatencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastPoolUtilisation = peakPoolUtilisation;
+
+            policy.onBatchCompleted(lastBatchLatencyMs, requestLatencyTracker.getAverageLatencyMs(), peakPoolUtilisation);
+        }
+    }
+
+    //Keeps a batch this run stopped waiting for, so later runs do not resubmit its items while it is still running
+    private void holdIfRunning(CompletableFuture<?> batch) {
+        if (batch != null && !batch.isDone()) {
+            outstandingBatch = batch;
+        }
+    }
+
+    //Waits for the batch while sampling the connection pool, since its connections are back in the pool once it ends
+    //Returns the peak utilisation observed while the batch was running
+    private double awaitSamplingPool(CompletableFuture<?> batch, long startNanos) throws Exception {
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(batchTimeoutMs);
+        double peak = poolUtilisation();
+        while (true) {
+            try {
+                batch.get(POOL_SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                return peak;
+            } catch (TimeoutException e) {
+                peak = Math.max(peak, poolUtilisation());
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new TimeoutException("Batch processing timed out after " + batchTimeoutMs + " ms");
+                }
+            }
+        }
+    }
+
+    public void pause() {
+        paused.set(true);
+    }
+
+    public void resume() {
+        paused.set(false);
+    }
+
+    public SchedulerStatus getStatus() {
+        return new SchedulerStatus(paused.get(), policy.getBatchSize(), policy.getConcurrency(),
+                lastBatchLatencyMs, requestLatencyTracker.getAverageLatencyMs(), lastPoolUtilisation,
+                processedTotal.get());
+    }
+
+    //Fraction of Hikari connections currently in use, or 0 if the pool cannot be inspected
+    //Threads queued for a connection mean the pool is saturated and count as full utilisation
+    private double poolUtilisation() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                if (pool != null && pool.getThreadsAwaitingConnection() > 0) {
+                    return 1.0;
+                }
+                if (pool != null && hikari.getMaximumPoolSize() > 0) {
+                    return (double) pool.getActiveConnections() / hikari.getMaximumPoolSize();
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Unable to read connection pool metrics: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    //Snapshot of the scheduler state exposed by the scheduler controls
+    //poolUtilisation is the peak observed during the last batch
+    public record SchedulerStatus(boolean paused, int batchSize, int concurrency, long lastBatchLatencyMs,
+                                  double requestLatencyMs, double poolUtilisation, long processedTotal) {
+    }
+}
@@ -1,11 +1,17 @@
 package com.siemens.internship.service;
 
+import com.siemens.internship.exception.ServiceUnavailableException;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ProcessingCheckpoint;
 import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.task.TaskExecutor;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -25,19 +31,71 @@ public class ItemService {
     @Qualifier("taskExecutor")
     private TaskExecutor taskExecutor;
 
+    // Tracks in-flight items so a shutdown can drain them and checkpoint the unfinished ones
+    @Autowired
+    private ProcessingDrainCoordinator drainCoordinator;
+
+    @Autowired
+    private ProcessingCheckpointRepository checkpointRepository;
+
+    // Upper bound on how long a caller waits for a single batch
+    public static final long BATCH_TIMEOUT_SECONDS = 30;
+
+    // Number of tasks used to resume checkpointed items
+    private static final int RESUME_CONCURRENCY = 4;
+
+    @Value("${items.processing.resume-batch-size:100}")
+    private int resumeBatchSize = 100;
+
+    // Optional write-behind mode: updates to existing items are buffered and flushed in batches
+    // The buffer bean only exists when items.write-behind.enabled is true
+    @Autowired
+    private ObjectProvider<WriteBehindBuffer> writeBehindBufferProvider;
+
+    // Null when write-behind is disabled
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @PostConstruct
+    void init() {
+        writeBehindBuffer = writeBehindBufferProvider.getIfAvailable();
+    }
+
     public List<Item> findAll() {
-        return itemRepository.findAll();
+        List<Item> items = itemRepository.findAll();
+        if (writeBehindBuffer == null) {
+            return items;
+        }
+        // Overlay buffered updates that have not been flushed yet
+        return items.stream()
+                .map(item -> writeBehindBuffer.get(item.getId()).orElse(item))
+                .toList();
     }
 
     public Optional<Item> findById(Long id) {
+        if (writeBehindBuffer != null) {
+            Optional<Item> buffered = writeBehindBuffer.get(id);
+            if (buffered.isPresent()) {
+                return buffered;
+            }
+        }
         return itemRepository.findById(id);
     }
 
+    //New items are always inserted directly since they need a generated ID
+    //In write-behind mode updates to existing items are buffered; once it is closed for shutdown the buffer flushes them inline
     public Item save(Item item) {
+        if (writeBehindBuffer != null && item.getId() != null) {
+            writeBehindBuffer.put(item);
+            return item;
+        }
         return itemRepository.save(item);
     }
 
     public void deleteById(Long id) {
+        if (writeBehindBuffer != null) {
+            // Drop any buffered update so a later flush cannot touch the deleted item
+            writeBehindBuffer.discard(id);
+        }
         itemRepository.deleteById(id);
     }
 
@@ -53,9 +111,9 @@ public class ItemService {
      * 6. Provides proper timeout handling
      *
      * @return List of successfully processed items
+     * @throws ServiceUnavailableException if the application has started shutting down
      * @throws RuntimeException if batch processing fails or times out
      */
-    @Async
     public List<Item> processItemsAsync() {
         // Get all item IDs
         List<Long> itemIds = itemRepository.findAllIds();
@@ -66,39 +124,31 @@ public class ItemService {
         // Create a list of CompletableFutures for each item processing
         List<CompletableFuture<Void>> futures = new ArrayList<>();
 
+        // Register every item up front so a drain starting mid-loop cannot strand the ones not yet submitted
+        try {
+            drainCoordinator.register(itemIds);
+        } catch (IllegalStateException e) {
+            throw new ServiceUnavailableException(e.getMessage());
+        }
+
         // Process each item asynchronously
-        for (Long id : itemIds) {
-            CompletableFuture<Void> future = CompletableFuture.supplyAsync(() -> {
-                // Try to find and process the item, returning Optional.empty() on failure
-                try {
-                    // Simulate some processing time
-                    Thread.sleep(100);
-
-                    // Find item, update status, and save
-                    Optional<Item> optionalItem = itemRepository.findById(id);
-                    if (optionalItem.isPresent()) {
-                        Item item = optionalItem.get();
-                        item.setStatus("PROCESSED");
-                        Item savedItem = itemRepository.save(item);
-                        processedItems.add(savedItem);
-                        return Optional.of(savedItem);
-                    }
-                    return Optional.<Item>empty();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return Optional.<Item>empty();
-                } catch (Exception e) {
-                    System.err.println("Error processing item with ID " + id + ": " + e.getMessage());
-                    return Optional.<Item>empty();
-                }
-            }, taskExecutor).thenAccept(optItem -> {
-                // No additional action needed
-                // We've already added the item to processedItems in the supplyAsync block if processing was successful
-            }).exceptionally(ex -> {
-                // Handle any unexpected errors from the futures
-                System.err.println("Unexpected error in future for item ID " + id + ": " + ex.getMessage());
-                return null;
-            });
+        for (int i = 0; i < itemIds.size(); i++) {
+            Long id = itemIds.get(i);
+            CompletableFuture<Optional<Item>> task;
+            try {
+                task = CompletableFuture.supplyAsync(() -> processTrackedItem(id), taskExecutor);
+            } catch (RuntimeException e) {
+                // Rejected by the executor, so no task will ever release this item or the ones after it
+                itemIds.subList(i, itemIds.size()).forEach(drainCoordinator::complete);
+                throw e;
+            }
+            CompletableFuture<Void> future = task
+                    .thenAccept(optItem -> optItem.ifPresent(processedItems::add))
+                    .exceptionally(ex -> {
+                        // Handle any unexpected errors from the futures
+                        System.err.println("Unexpected error in future for item ID " + id + ": " + ex.getMessage());
+                        return null;
+                    });
 
             futures.add(future);
         }
@@ -122,4 +172,173 @@ public class ItemService {
         // Return the list of successfully processed items
         return new ArrayList<>(processedItems);
     }
+
+    /**
+     * Returns up to {@code limit} IDs of items that are not yet processed, starting after {@code afterId}.
+     *
+     * @param afterId exclusive lower bound of the returned IDs, 0 to start from the beginning
+     * @param limit maximum number of IDs to return
+     * @return pending item IDs in ascending order
+     */
+    public List<Long> findPendingIds(Long afterId, int limit) {
+        return itemRepository.findPendingIdsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Processes the given items using at most {@code concurrency} tasks on the shared TaskExecutor.
+     *
+     * @param itemIds IDs of the items to process
+     * @param concurrency maximum number of tasks submitted for this batch
+     * @return the successfully processed items and the IDs that were attempted
+     * @throws RuntimeException if the batch fails or times out
+     */
+    public BatchResult processBatch(List<Long> itemIds, int concurrency) {
+        CompletableFuture<BatchResult> batch = submitBatch(itemIds, concurrency);
+        try {
+            return batch.get(BATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Batch processing was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error during batch processing", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Batch processing timed out after " + BATCH_TIMEOUT_SECONDS + " seconds", e);
+        }
+    }
+
+    /**
+     * Starts processing the given items without waiting for them, so callers can observe the batch while it runs.
+     *
+     * The IDs are split into one chunk per task and each task processes its chunk sequentially,
+     * so a batch never occupies more executor threads than requested.
+     *
+     * @param itemIds IDs of the items to process
+     * @param concurrency maximum number of tasks submitted for this batch
+     * @return future completed with the batch result once every task has finished
+     */
+    public CompletableFuture<BatchResult> submitBatch(List<Long> itemIds, int concurrency) {
+        List<Item> processedItems = Collections.synchronizedList(new ArrayList<>());
+        List<Long> completedIds = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        int chunkCount = Math.max(1, Math.min(concurrency, itemIds.size()));
+        int chunkSize = (itemIds.size() + chunkCount - 1) / chunkCount;
+
+        for (int start = 0; start < itemIds.size(); start += chunkSize) {
+            List<Long> chunk = itemIds.subList(start, Math.min(start + chunkSize, itemIds.size()));
+            // Each chunk is registered right before it is handed to a task and released if the executor rejects it
+            drainCoordinator.register(chunk);
+            try {
+                futures.add(CompletableFuture.runAsync(() -> processChunk(chunk, processedItems, completedIds), taskExecutor));
+            } catch (RuntimeException e) {
+                chunk.forEach(drainCoordinator::complete);
+                if (futures.isEmpty()) {
+                    throw e;
+                }
+                // Finish what was submitted; the remaining items stay pending for a later run
+                System.err.println("Batch submission stopped after " + start + " of " + itemIds.size()
+                        + " items: " + e.getMessage());
+                break;
+            }
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> new BatchResult(new ArrayList<>(processedItems), new ArrayList<>(completedIds)));
+    }
+
+    /**
+     * Resumes items checkpointed by an instance that was shut down mid-processing.
+     *
+     * Called by the {@link ItemProcessingScheduler} at the start of each run, so checkpoints written by
+     * another instance while this one is running, as in a rolling deploy, are picked up too.
+     * Items are processed in batches and only the checkpoint rows of items that were actually
+     * attempted are removed. Items skipped because a drain deadline passed keep their rows and are
+     * checkpointed again by the drain, so a second interrupted shutdown loses nothing.
+     *
+     * @return number of checkpointed items that were processed
+     */
+    public int resumeCheckpointedItems() {
+        List<Long> itemIds = checkpointRepository.findAll().stream()
+                .map(ProcessingCheckpoint::getItemId)
+                .sorted()
+                .toList();
+
+        int resumed = 0;
+        for (int start = 0; start < itemIds.size() && drainCoordinator.isAdmitting(); start += resumeBatchSize) {
+            List<Long> batch = itemIds.subList(start, Math.min(start + resumeBatchSize, itemIds.size()));
+            BatchResult result = processBatch(batch, RESUME_CONCURRENCY);
+            checkpointRepository.deleteAllById(result.completedIds());
+            resumed += result.completedIds().size();
+            if (result.completedIds().size() < batch.size()) {
+                // Cut short by a drain, the rest is left to the next instance
+                break;
+            }
+        }
+        return resumed;
+    }
+
+    //Processes a registered chunk sequentially, releasing each item from the drain coordinator as it goes
+    //An item counts as completed once it has been attempted, whether or not it still existed or could be saved
+    private void processChunk(List<Long> chunk, List<Item> processedItems, List<Long> completedIds) {
+        for (int i = 0; i < chunk.size(); i++) {
+            if (drainCoordinator.shouldStop()) {
+                // The rest stay in flight so the drain checkpoints them
+                return;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                // Not a drain, so release the rest instead of leaving them to be checkpointed
+                chunk.subList(i, chunk.size()).forEach(drainCoordinator::complete);
+                return;
+            }
+            Long id = chunk.get(i);
+            try {
+                processItem(id).ifPresent(processedItems::add);
+                completedIds.add(id);
+            } finally {
+                drainCoordinator.complete(id);
+            }
+        }
+    }
+
+    //Processes an item registered with the drain coordinator, skipping it once the drain deadline has passed
+    //A skipped item stays in flight so it is checkpointed for the next instance
+    private Optional<Item> processTrackedItem(Long id) {
+        if (drainCoordinator.shouldStop()) {
+            return Optional.empty();
+        }
+        try {
+            return processItem(id);
+        } finally {
+            drainCoordinator.complete(id);
+        }
+    }
+
+    //Finds a single item, marks it as PROCESSED and saves it
+    //Returns Optional.empty() if the item no longer exists or processing failed
+    private Optional<Item> processItem(Long id) {
+        try {
+            // Simulate some processing time
+            Thread.sleep(100);
+
+            // Find item, update status, and save
+            Optional<Item> optionalItem = findById(id);
+            if (optionalItem.isPresent()) {
+                Item item = optionalItem.get();
+                item.setStatus("PROCESSED");
+                return Optional.of(save(item));
+            }
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (Exception e) {
+            System.err.println("Error processing item with ID " + id + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    //Outcome of a batch: the items that were processed and saved, and the IDs that were attempted
+    //IDs skipped because a drain deadline passed appear in neither list
+    public record BatchResult(List<Item> processedItems, List<Long> completedIds) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.ProcessingCheckpoint;
+import com.siemens.internship.repository.ProcessingCheckpointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks in-flight item processing and drains it gracefully when the application shuts down.
+ *
+ * On shutdown the coordinator:
+ * 1. Stops admitting new processing work
+ * 2. Waits up to the drain timeout for in-flight items to finish
+ * 3. Signals workers to stop picking up new items once the deadline has passed
+ * 4. Persists the IDs that are still unfinished as {@link ProcessingCheckpoint} rows
+ *
+ * The context closed event is published before the TaskExecutor is shut down, so workers and the
+ * database are still available while draining. Processing is idempotent, so an item that completes
+ * while its ID is being checkpointed is simply processed again by the next instance.
+ */
+@Component
+public class ProcessingDrainCoordinator {
+
+    @Autowired
+    private ProcessingCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${items.processing.drain-timeout-ms:20000}")
+    private long drainTimeoutMs = 20000;
+
+    //Number of registrations per in-flight item, so overlapping runs on the same item release it independently
+    private final Map<Long, Integer> inFlight = new ConcurrentHashMap<>();
+
+    private volatile boolean draining;
+    private volatile long drainDeadlineNanos;
+
+    //True until shutdown starts
+    public boolean isAdmitting() {
+        return !draining;
+    }
+
+    //True once the drain deadline has passed; workers should leave their remaining items to the checkpoint
+    public boolean shouldStop() {
+        return draining && System.nanoTime() - drainDeadlineNanos >= 0;
+    }
+
+    //Registers the items of a new unit of work, rejecting it once shutdown has started
+    public void register(Collection<Long> itemIds) {
+        if (draining) {
+            throw new IllegalStateException("Shutting down, not accepting new processing work");
+        }
+        for (Long id : itemIds) {
+            inFlight.merge(id, 1, Integer::sum);
+        }
+    }
+
+    //Releases one registration of an item, whether its processing succeeded or it was never started
+    public void complete(Long itemId) {
+        inFlight.computeIfPresent(itemId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    //Drains when this bean's own context closes; a child context closing must not stop the parent's processing
+    @EventListener(ContextClosedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onContextClosed(ContextClosedEvent event) {
+        if (event.getApplicationContext() == applicationContext) {
+            drain();
+        }
+    }
+
+    //Stops admitting work, waits for in-flight items up to the drain timeout and checkpoints the rest
+    //Runs once; later calls return after the first drain has finished and keep its deadline
+    public synchronized void drain() {
+        if (draining) {
+            return;
+        }
+        drainDeadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+        draining = true;
+
+        try {
+            while (!inFlight.isEmpty() && !shouldStop()) {
+                Thread.sleep(50);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Long> unfinished = new ArrayList<>(inFlight.keySet());
+        if (unfinished.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        List<ProcessingCheckpoint> checkpoints = new ArrayList<>(unfinished.size());
+        for (Long id : unfinished) {
+            checkpoints.add(new ProcessingCheckpoint(id, now));
+        }
+
+        try {
+            checkpointRepository.saveAll(checkpoints);
+            System.err.println("Checkpointed " + unfinished.size() + " unfinished items for the next instance");
+        } catch (Exception e) {
+            System.err.println("Failed to checkpoint unfinished items: " + e.getMessage());
+        }
+    }
+}
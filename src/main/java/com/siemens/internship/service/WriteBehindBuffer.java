@@ -0,0 +1,318 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalescing write-behind buffer for updates to existing items.
+ *
+ * Updates are kept per item ID, last write wins, in a fixed number of lock-striped maps so concurrent
+ * writers to different items rarely contend. Buffered updates are written to the database in batched
+ * transactions when the buffer reaches its size threshold or on a fixed interval, whichever comes first.
+ *
+ * Reads see buffered values, including those of a flush that has not committed yet. On shutdown the
+ * buffer is closed and fully flushed; from then on every write is still buffered but flushed before it
+ * returns, so all writes to an item are applied in order and an older buffered update can never
+ * overwrite a newer one.
+ *
+ * Only created when items.write-behind.enabled is true, so a disabled buffer runs no flush timer.
+ */
+@Component
+@ConditionalOnProperty(name = "items.write-behind.enabled", havingValue = "true")
+public class WriteBehindBuffer {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${items.write-behind.stripes:16}")
+    private int stripeCount = 16;
+
+    //Pending updates that trigger a background flush; at twice this size writers flush inline
+    @Value("${items.write-behind.max-pending:1000}")
+    private int maxPending = 1000;
+
+    //Maximum number of items written per transaction
+    @Value("${items.write-behind.flush-batch-size:500}")
+    private int flushBatchSize = 500;
+
+    private Stripe[] stripes;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    //Only one flush runs at a time
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    //Updates taken out of the stripes by the running flush, visible to reads until they are committed
+    private volatile Map<Long, Item> flushing = Collections.emptyMap();
+
+    private volatile boolean closed;
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<Long, Item> updates = new HashMap<>();
+    }
+
+    @PostConstruct
+    void init() {
+        stripes = new Stripe[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private Stripe stripeFor(Long id) {
+        return stripes[Math.floorMod(id.hashCode(), stripes.length)];
+    }
+
+    /**
+     * Buffers an update to an existing item, replacing any earlier buffered update for the same ID.
+     *
+     * Once the buffer is closed the update is flushed before this method returns.
+     *
+     * @param item item with a non-null ID; a copy is buffered so later changes by the caller are not seen
+     * @throws IllegalStateException if the buffer is closed and the update could not be written
+     */
+    public void put(Item item) {
+        boolean flushNow;
+        Stripe stripe = stripeFor(item.getId());
+        stripe.lock.lock();
+        try {
+            if (stripe.updates.put(item.getId(), copy(item)) == null) {
+                pending.incrementAndGet();
+            }
+            // Read under the lock: flushAndClose sets closed before sweeping this stripe,
+            // so an update inserted while it was still open is swept by the final flush
+            flushNow = closed;
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        int size = pending.get();
+        if (flushNow || size >= 2 * maxPending) {
+            // Closed for shutdown, or writers are outpacing the flusher and need backpressure
+            flush();
+        } else if (size >= maxPending) {
+            triggerFlush();
+        }
+    }
+
+    //The buffered version of an item, if an update to it has not been committed yet
+    public Optional<Item> get(Long id) {
+        Stripe stripe = stripeFor(id);
+        Item item;
+        stripe.lock.lock();
+        try {
+            item = stripe.updates.get(id);
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (item == null) {
+            item = flushing.get(id);
+        }
+        return Optional.ofNullable(item).map(WriteBehindBuffer::copy);
+    }
+
+    //Drops any buffered update for an item that is being deleted
+    public void discard(Long id) {
+        Stripe stripe = stripeFor(id);
+        stripe.lock.lock();
+        try {
+            if (stripe.updates.remove(id) != null) {
+                pending.decrementAndGet();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        flushing.remove(id);
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    @Scheduled(fixedDelayString = "${items.write-behind.flush-interval-ms:200}")
+    public void flushOnInterval() {
+        if (pending.get() > 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all buffered updates to the database and waits for any flush already running.
+     *
+     * Updates whose item has been deleted in the meantime are dropped. If a transaction fails its
+     * updates are put back, unless a newer update for the same item has been buffered since. Once the
+     * buffer is closed nothing would flush them again, so they are written through one by one instead.
+     *
+     * @throws IllegalStateException if the buffer is closed and some updates could not be written at all
+     */
+    public void flush() {
+        List<Long> lost = new ArrayList<>();
+        flushLock.lock();
+        try {
+            // Published before the stripes are emptied so reads never fall through to stale rows
+            Map<Long, Item> batch = new ConcurrentHashMap<>();
+            flushing = batch;
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    if (!stripe.updates.isEmpty()) {
+                        batch.putAll(stripe.updates);
+                        stripe.updates = new HashMap<>();
+                    }
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pending.addAndGet(-batch.size());
+
+            List<Long> ids = new ArrayList<>(batch.keySet());
+            for (int start = 0; start < ids.size(); start += flushBatchSize) {
+                List<Long> chunk = ids.subList(start, Math.min(start + flushBatchSize, ids.size()));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        for (Item managed : itemRepository.findAllById(chunk)) {
+                            // Null if discarded by a delete while this flush was running
+                            applyUpdate(managed, batch.get(managed.getId()));
+                        }
+                    });
+                } catch (Exception e) {
+                    System.err.println("Write-behind flush of " + chunk.size() + " items failed: " + e.getMessage());
+                    if (closed) {
+                        lost.addAll(writeThrough(chunk, batch));
+                    } else {
+                        requeue(chunk, batch);
+                    }
+                }
+            }
+        } finally {
+            flushing = Collections.emptyMap();
+            flushLock.unlock();
+        }
+
+        if (!lost.isEmpty()) {
+            throw new IllegalStateException("Write-behind buffer is closed and could not persist updates for items " + lost);
+        }
+    }
+
+    //Closes the buffer when this bean's own context closes, ignoring child contexts
+    //Ordered after the processing drain so updates made by drained work are written too
+    //Throws if some updates could not be written, which the context reports while closing
+    @EventListener(ContextClosedEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onContextClosed(ContextClosedEvent event) {
+        if (event.getApplicationContext() == applicationContext) {
+            flushAndClose();
+        }
+    }
+
+    //Closes the buffer and flushes everything still pending
+    public void flushAndClose() {
+        closed = true;
+        flush();
+    }
+
+    //Starts a background flush unless one is already running; flushes inline if the executor is saturated
+    private void triggerFlush() {
+        if (flushLock.isLocked()) {
+            return;
+        }
+        try {
+            taskExecutor.execute(this::flush);
+        } catch (TaskRejectedException e) {
+            flush();
+        }
+    }
+
+    //Writes each update in its own transaction directly through the repository, returning the IDs that failed
+    private List<Long> writeThrough(List<Long> ids, Map<Long, Item> batch) {
+        List<Long> failed = new ArrayList<>();
+        for (Long id : ids) {
+            Item latest = batch.get(id);
+            if (latest == null) {
+                continue;
+            }
+            try {
+                itemRepository.findById(id).ifPresent(managed -> {
+                    applyUpdate(managed, latest);
+                    itemRepository.save(managed);
+                });
+            } catch (Exception e) {
+                System.err.println("Write-through of buffered update for item " + id + " failed: " + e.getMessage());
+                failed.add(id);
+            }
+        }
+        return failed;
+    }
+
+    //Copies every property but the ID, so fields added to Item later are written in write-behind mode too
+    private static void applyUpdate(Item managed, Item latest) {
+        if (latest == null) {
+            return;
+        }
+        BeanUtils.copyProperties(latest, managed, "id");
+    }
+
+    private void requeue(List<Long> ids, Map<Long, Item> batch) {
+        for (Long id : ids) {
+            Item item = batch.get(id);
+            if (item == null) {
+                continue;
+            }
+            Stripe stripe = stripeFor(id);
+            stripe.lock.lock();
+            try {
+                if (stripe.updates.putIfAbsent(id, item) == null) {
+                    pending.incrementAndGet();
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private static Item copy(Item item) {
+        Item copy = new Item();
+        BeanUtils.copyProperties(item, copy);
+        return copy;
+    }
+}
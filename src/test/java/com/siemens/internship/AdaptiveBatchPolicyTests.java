@@ -0,0 +1,71 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.siemens.internship.service.AdaptiveBatchPolicy;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveBatchPolicyTests {
+
+	private AdaptiveBatchPolicy newPolicy() {
+		return new AdaptiveBatchPolicy(10, 100, 10, 1, 4, 1000, 200, 0.75);
+	}
+
+	@Test
+	void startsAtMinimums() {
+		AdaptiveBatchPolicy policy = newPolicy();
+
+		assertThat(policy.getBatchSize()).isEqualTo(10);
+		assertThat(policy.getConcurrency()).isEqualTo(1);
+	}
+
+	@Test
+	void increasesAdditivelyUpToMaximums() {
+		AdaptiveBatchPolicy policy = newPolicy();
+
+		policy.onBatchCompleted(500, 50, 0.1);
+		assertThat(policy.getBatchSize()).isEqualTo(20);
+		assertThat(policy.getConcurrency()).isEqualTo(2);
+
+		for (int i = 0; i < 20; i++) {
+			policy.onBatchCompleted(500, 50, 0.1);
+		}
+		assertThat(policy.getBatchSize()).isEqualTo(100);
+		assertThat(policy.getConcurrency()).isEqualTo(4);
+	}
+
+	@Test
+	void halvesOnAnyCongestionSignal() {
+		AdaptiveBatchPolicy policy = newPolicy();
+		for (int i = 0; i < 10; i++) {
+			policy.onBatchCompleted(500, 50, 0.1);
+		}
+		assertThat(policy.getBatchSize()).isEqualTo(100);
+
+		// Slow batch
+		policy.onBatchCompleted(1500, 50, 0.1);
+		assertThat(policy.getBatchSize()).isEqualTo(50);
+		assertThat(policy.getConcurrency()).isEqualTo(2);
+
+		// Slow CRUD requests
+		policy.onBatchCompleted(500, 300, 0.1);
+		assertThat(policy.getBatchSize()).isEqualTo(25);
+		assertThat(policy.getConcurrency()).isEqualTo(1);
+
+		// Busy connection pool, never below the minimums
+		policy.onBatchCompleted(500, 50, 0.9);
+		policy.onBatchCompleted(500, 50, 0.9);
+		assertThat(policy.getBatchSize()).isEqualTo(10);
+		assertThat(policy.getConcurrency()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsInvalidBounds() {
+		assertThatThrownBy(() -> new AdaptiveBatchPolicy(0, 10, 1, 1, 1, 1000, 200, 0.75))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new AdaptiveBatchPolicy(1, 10, 1, 3, 2, 1000, 200, 0.75))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -1,22 +1,28 @@
 package com.siemens.internship;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.siemens.internship.controller.ItemController;
+import com.siemens.internship.exception.ServiceUnavailableException;
 import com.siemens.internship.model.Item;
 import com.siemens.internship.repository.ItemRepository;
 import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingDrainCoordinator;
 import com.siemens.internship.validator.EmailValidator;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -24,6 +30,7 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.*;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -63,6 +70,9 @@ class InternshipApplicationTests {
 	@Mock
 	private ItemRepository mockItemRepository;
 
+	@Spy
+	private ProcessingDrainCoordinator drainCoordinator = new ProcessingDrainCoordinator();
+
 	@InjectMocks
 	private ItemService mockItemService;
 
@@ -145,6 +155,71 @@ class InternshipApplicationTests {
 				.andExpect(jsonPath("$", hasSize(0)));
 	}
 
+	@Test
+	public void testGetAllItemsAsCbor() throws Exception {
+		Item item = new Item(null, "Cbor Item", "Binary encoded", "NEW", "cbor@siemens.com");
+		itemRepository.save(item);
+
+		// Request the list in CBOR through content negotiation
+		byte[] body = mockMvc.perform(get("/api/items").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		Item[] items = new CBORMapper().readValue(body, Item[].class);
+		assertThat(items).hasSize(1);
+		assertThat(items[0].getName()).isEqualTo("Cbor Item");
+		assertThat(items[0].getEmail()).isEqualTo("cbor@siemens.com");
+	}
+
+	@Test
+	public void testGetAllItemsAsSmile() throws Exception {
+		Item item = new Item(null, "Smile Item", "Binary encoded", "NEW", "smile@siemens.com");
+		itemRepository.save(item);
+
+		// Request the list in Smile through content negotiation
+		byte[] body = mockMvc.perform(get("/api/items").accept(ItemController.APPLICATION_SMILE_VALUE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(ItemController.APPLICATION_SMILE_VALUE))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		Item[] items = new SmileMapper().readValue(body, Item[].class);
+		assertThat(items).hasSize(1);
+		assertThat(items[0].getName()).isEqualTo("Smile Item");
+		assertThat(items[0].getEmail()).isEqualTo("smile@siemens.com");
+	}
+
+	@Test
+	public void testProcessItemsNegotiatesBinaryEncodings() throws Exception {
+		Item item = new Item(null, "Processed Item", "Binary encoded", "NEW", "processed@siemens.com");
+		itemRepository.save(item);
+
+		// The processed list is written in the encoding the client asked for
+		byte[] smile = mockMvc.perform(get("/api/items/process").accept(ItemController.APPLICATION_SMILE_VALUE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(ItemController.APPLICATION_SMILE_VALUE))
+				.andReturn().getResponse().getContentAsByteArray();
+		Item[] smileItems = new SmileMapper().readValue(smile, Item[].class);
+		assertThat(smileItems).hasSize(1);
+		assertThat(smileItems[0].getStatus()).isEqualTo("PROCESSED");
+
+		byte[] cbor = mockMvc.perform(get("/api/items/process").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+		Item[] cborItems = new CBORMapper().readValue(cbor, Item[].class);
+		assertThat(cborItems).hasSize(1);
+		assertThat(cborItems[0].getName()).isEqualTo("Processed Item");
+	}
+
+	@Test
+	public void testGetAllItemsDefaultsToJson() throws Exception {
+		// Without an Accept header the list is still written as JSON
+		mockMvc.perform(get("/api/items"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
 	@Test
 	public void testValidationFailure() throws Exception {
 		// Create item with invalid data
@@ -331,4 +406,63 @@ class InternshipApplicationTests {
 		verify(mockItemRepository, times(1)).findById(id2);
 		verify(mockItemRepository, times(2)).save(any(Item.class));
 	}
+
+	@Test
+	void testProcessItemsAsyncReleasesItemsItCannotStart() {
+		Item item1 = new Item(1L, "Item 1", null, null, null);
+		when(mockItemRepository.findAllIds()).thenReturn(Arrays.asList(1L, 2L, 3L));
+		when(mockItemRepository.findById(1L)).thenReturn(Optional.of(item1));
+		when(mockItemRepository.save(any(Item.class))).thenAnswer(i -> i.getArgument(0));
+
+		// Executor that runs the first task and rejects every later one
+		TaskExecutor syncExecutor = new SyncTaskExecutor();
+		int[] submitted = {0};
+		TaskExecutor saturatedExecutor = task -> {
+			if (submitted[0]++ > 0) {
+				throw new TaskRejectedException("Executor is full");
+			}
+			syncExecutor.execute(task);
+		};
+		ReflectionTestUtils.setField(mockItemService, "taskExecutor", saturatedExecutor);
+
+		// The items after the rejected one were registered up front and are released with it
+		assertThatThrownBy(() -> mockItemService.processItemsAsync()).isInstanceOf(TaskRejectedException.class);
+		assertThat(drainCoordinator.getInFlightCount()).isZero();
+
+		// Once draining, nothing is registered or started and the caller gets a 503
+		drainCoordinator.drain();
+		assertThatThrownBy(() -> mockItemService.processItemsAsync()).isInstanceOf(ServiceUnavailableException.class);
+		assertThat(drainCoordinator.getInFlightCount()).isZero();
+		assertThat(submitted[0]).isEqualTo(2);
+	}
+
+	@Test
+	void testRejectedBatchSubmissionReleasesItems() {
+		Item item1 = new Item(1L, "Item 1", null, null, null);
+		when(mockItemRepository.findById(1L)).thenReturn(Optional.of(item1));
+		when(mockItemRepository.save(any(Item.class))).thenAnswer(i -> i.getArgument(0));
+
+		// Executor that runs the first task and rejects every later one, like a saturated pool
+		TaskExecutor syncExecutor = new SyncTaskExecutor();
+		int[] submitted = {0};
+		TaskExecutor saturatedExecutor = task -> {
+			if (submitted[0]++ > 0) {
+				throw new TaskRejectedException("Executor is full");
+			}
+			syncExecutor.execute(task);
+		};
+		ReflectionTestUtils.setField(mockItemService, "taskExecutor", saturatedExecutor);
+
+		// The accepted chunk is processed, the rejected ones are released instead of staying in flight
+		ItemService.BatchResult result = mockItemService.processBatch(Arrays.asList(1L, 2L, 3L), 3);
+		assertThat(result.processedItems()).hasSize(1);
+		assertThat(result.completedIds()).containsExactly(1L);
+		assertThat(drainCoordinator.getInFlightCount()).isZero();
+
+		// A batch whose first chunk is rejected fails and leaves nothing in flight either
+		submitted[0] = 1;
+		assertThatThrownBy(() -> mockItemService.processBatch(Arrays.asList(4L, 5L), 2))
+				.isInstanceOf(TaskRejectedException.class);
+		assertThat(drainCoordinator.getInFlightCount()).isZero();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.siemens.internship.config.RequestLatencyTracker;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ProcessingCheckpoint;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingCheckpointRepository;
+import com.siemens.internship.service.ItemProcessingScheduler;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingDrainCoordinator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+//The background scheduler and its controls, running against the real service and repository
+//Latency and pool targets are out of reach, so every batch counts as uncongested and the policy only grows
+@SpringBootTest(properties = {
+		"items.processing.scheduler.enabled=true",
+		"items.processing.scheduler.initial-delay-ms=0",
+		"items.processing.scheduler.interval-ms=100",
+		"items.processing.scheduler.min-batch-size=2",
+		"items.processing.scheduler.max-batch-size=10",
+		"items.processing.scheduler.batch-size-step=2",
+		"items.processing.scheduler.min-concurrency=1",
+		"items.processing.scheduler.max-concurrency=4",
+		"items.processing.scheduler.target-batch-latency-ms=60000",
+		"items.processing.scheduler.target-request-latency-ms=60000",
+		"items.processing.scheduler.max-pool-utilisation=1.0",
+		"items.processing.drain-timeout-ms=100"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext
+class ItemProcessingSchedulerTests {
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private ProcessingCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private ItemProcessingScheduler itemProcessingScheduler;
+
+	@Autowired
+	private ProcessingDrainCoordinator drainCoordinator;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@AfterEach
+	public void cleanup() throws Exception {
+		// Let running batches finish so they cannot save items back after the delete
+		itemProcessingScheduler.pause();
+		waitFor(() -> drainCoordinator.getInFlightCount() == 0, 10_000);
+		checkpointRepository.deleteAll();
+		itemRepository.deleteAll();
+		itemProcessingScheduler.resume();
+	}
+
+	@Test
+	void processesPendingItemsAndAdaptsBatches() throws Exception {
+		List<Long> ids = createItems(30);
+
+		assertThat(waitFor(() -> allHaveStatus(ids, "PROCESSED"), 10_000)).isTrue();
+
+		// Every batch was uncongested, so the policy grew past its minimums
+		ItemProcessingScheduler.SchedulerStatus status = itemProcessingScheduler.getStatus();
+		assertThat(status.batchSize()).isGreaterThan(2);
+		assertThat(status.concurrency()).isGreaterThan(1);
+		assertThat(status.processedTotal()).isGreaterThanOrEqualTo(ids.size());
+
+		mockMvc.perform(get("/api/items/scheduler"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.paused").value(false))
+				.andExpect(jsonPath("$.batchSize").value(status.batchSize()))
+				.andExpect(jsonPath("$.concurrency").value(status.concurrency()));
+	}
+
+	@Test
+	void pauseStopsNewBatchesAndResumeRestartsThem() throws Exception {
+		mockMvc.perform(post("/api/items/scheduler/pause"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.paused").value(true));
+		// A run that read the flag just before the pause finds nothing to do and ends
+		Thread.sleep(200);
+		assertThat(waitFor(() -> drainCoordinator.getInFlightCount() == 0, 10_000)).isTrue();
+
+		List<Long> ids = createItems(5);
+
+		// Several intervals pass without a batch starting
+		Thread.sleep(500);
+		assertThat(drainCoordinator.getInFlightCount()).isZero();
+		assertThat(allHaveStatus(ids, "NEW")).isTrue();
+
+		mockMvc.perform(post("/api/items/scheduler/resume"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.paused").value(false));
+
+		assertThat(waitFor(() -> allHaveStatus(ids, "PROCESSED"), 10_000)).isTrue();
+	}
+
+	@Test
+	void resumesCheckpointsWrittenWhileRunning() throws Exception {
+		// As written by another instance draining after this one started
+		List<Long> ids = createItems(3);
+		Instant now = Instant.now();
+		checkpointRepository.saveAll(ids.stream().map(id -> new ProcessingCheckpoint(id, now)).toList());
+
+		assertThat(waitFor(() -> checkpointRepository.count() == 0, 10_000)).isTrue();
+		assertThat(allHaveStatus(ids, "PROCESSED")).isTrue();
+	}
+
+	@Test
+	void timedOutBatchHoldsBackNewBatchesUntilItFinishes() {
+		// A scheduler outside the context, so the batch it waits for can be controlled
+		ItemService service = mock(ItemService.class);
+		CompletableFuture<ItemService.BatchResult> stuck = new CompletableFuture<>();
+		when(service.findPendingIds(anyLong(), anyInt()))
+				.thenReturn(List.of(1L, 2L), List.of(1L, 2L), List.of());
+		when(service.submitBatch(anyList(), anyInt()))
+				.thenReturn(stuck, CompletableFuture.completedFuture(new ItemService.BatchResult(List.of(), List.of(1L, 2L))));
+
+		ItemProcessingScheduler scheduler = new ItemProcessingScheduler();
+		ReflectionTestUtils.setField(scheduler, "itemService", service);
+		ReflectionTestUtils.setField(scheduler, "requestLatencyTracker", new RequestLatencyTracker());
+		ReflectionTestUtils.setField(scheduler, "dataSource", mock(DataSource.class));
+		ReflectionTestUtils.setField(scheduler, "drainCoordinator", new ProcessingDrainCoordinator());
+		ReflectionTestUtils.setField(scheduler, "enabled", true);
+		ReflectionTestUtils.setField(scheduler, "minBatchSize", 2);
+		ReflectionTestUtils.setField(scheduler, "maxBatchSize", 2);
+		ReflectionTestUtils.setField(scheduler, "minConcurrency", 1);
+		ReflectionTestUtils.setField(scheduler, "maxConcurrency", 1);
+		ReflectionTestUtils.setField(scheduler, "batchTimeoutMs", 100L);
+		ReflectionTestUtils.invokeMethod(scheduler, "init");
+
+		// The first run gives up on the batch, the second finds it still running and does nothing
+		scheduler.drainPendingItems();
+		scheduler.drainPendingItems();
+		verify(service, times(1)).submitBatch(anyList(), anyInt());
+		verify(service, times(1)).resumeCheckpointedItems();
+
+		// Once it has finished the next run submits again
+		stuck.complete(new ItemService.BatchResult(List.of(), List.of(1L, 2L)));
+		scheduler.drainPendingItems();
+		verify(service, times(2)).submitBatch(anyList(), anyInt());
+	}
+
+	private boolean allHaveStatus(List<Long> ids, String status) {
+		return ids.stream().allMatch(id -> status.equals(itemRepository.findById(id).orElseThrow().getStatus()));
+	}
+
+	private List<Long> createItems(int count) {
+		List<Item> items = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			items.add(new Item(null, "Item " + i, "Scheduler test item", "NEW", "item" + i + "@siemens.com"));
+		}
+		return itemRepository.saveAll(items).stream().map(Item::getId).toList();
+	}
+
+	private static boolean waitFor(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMs;
+		while (System.currentTimeMillis() < deadline) {
+			if (condition.getAsBoolean()) {
+				return true;
+			}
+			Thread.sleep(20);
+		}
+		return condition.getAsBoolean();
+	}
+}
@@ -0,0 +1,109 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.siemens.internship.model.Item;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+//Micro-benchmark comparing the wire formats offered by the Item list endpoints
+//Reports bytes per item and serialise/deserialise ns per item for JSON, CBOR and Smile
+class ItemSerializationBenchmarkTests {
+
+	private static final int ITEM_COUNT = 1_000;
+	private static final int WARMUP_ROUNDS = 200;
+	private static final int MEASURED_ROUNDS = 200;
+
+	private static final TypeReference<List<Item>> ITEM_LIST = new TypeReference<>() {
+	};
+
+	@Test
+	void compareWireFormats() throws Exception {
+		List<Item> items = sampleItems();
+
+		Result json = measure("JSON", new ObjectMapper(), items);
+		Result cbor = measure("CBOR", new CBORMapper(), items);
+		Result smile = measure("Smile", new SmileMapper(), items);
+
+		System.out.printf("%-6s %12s %12s %14s %16s%n",
+				"format", "bytes/item", "gzip b/item", "serialise ns", "deserialise ns");
+		for (Result result : List.of(json, cbor, smile)) {
+			System.out.println(result);
+		}
+
+		// Both binary encodings must be more compact than JSON for the same list
+		assertThat(cbor.bytesPerItem).isLessThan(json.bytesPerItem);
+		assertThat(smile.bytesPerItem).isLessThan(json.bytesPerItem);
+	}
+
+	private Result measure(String format, ObjectMapper mapper, List<Item> items) throws IOException {
+		byte[] encoded = mapper.writeValueAsBytes(items);
+
+		// The decoded list must round-trip before any timing is trusted
+		List<Item> decoded = mapper.readValue(encoded, ITEM_LIST);
+		assertThat(decoded).hasSize(items.size());
+		assertThat(decoded.get(0).getName()).isEqualTo(items.get(0).getName());
+
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			mapper.readValue(mapper.writeValueAsBytes(items), ITEM_LIST);
+		}
+
+		long sink = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			sink += mapper.writeValueAsBytes(items).length;
+		}
+		long serialiseNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			sink += mapper.readValue(encoded, ITEM_LIST).size();
+		}
+		long deserialiseNanos = System.nanoTime() - start;
+		assertThat(sink).isPositive();
+
+		long operations = (long) MEASURED_ROUNDS * items.size();
+		return new Result(format,
+				(double) encoded.length / items.size(),
+				(double) gzip(encoded).length / items.size(),
+				(double) serialiseNanos / operations,
+				(double) deserialiseNanos / operations);
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		}
+		return out.toByteArray();
+	}
+
+	private static List<Item> sampleItems() {
+		List<Item> items = new ArrayList<>(ITEM_COUNT);
+		for (long i = 1; i <= ITEM_COUNT; i++) {
+			items.add(new Item(i, "Item " + i, "Benchmark item number " + i,
+					i % 2 == 0 ? "PROCESSED" : "NEW", "item" + i + "@siemens.com"));
+		}
+		return items;
+	}
+
+	private record Result(String format, double bytesPerItem, double gzipBytesPerItem,
+						  double serialiseNanosPerItem, double deserialiseNanosPerItem) {
+
+		@Override
+		public String toString() {
+			return String.format("%-6s %12.1f %12.1f %14.1f %16.1f",
+					format, bytesPerItem, gzipBytesPerItem, serialiseNanosPerItem, deserialiseNanosPerItem);
+		}
+	}
+}
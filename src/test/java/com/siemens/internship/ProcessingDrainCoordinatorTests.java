@@ -0,0 +1,94 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import com.siemens.internship.model.ProcessingCheckpoint;
+import com.siemens.internship.repository.ProcessingCheckpointRepository;
+import com.siemens.internship.service.ProcessingDrainCoordinator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+class ProcessingDrainCoordinatorTests {
+
+	private ProcessingCheckpointRepository checkpointRepository;
+	private ProcessingDrainCoordinator coordinator;
+
+	@BeforeEach
+	void setUp() {
+		checkpointRepository = mock(ProcessingCheckpointRepository.class);
+		coordinator = new ProcessingDrainCoordinator();
+		ReflectionTestUtils.setField(coordinator, "checkpointRepository", checkpointRepository);
+		ReflectionTestUtils.setField(coordinator, "drainTimeoutMs", 200L);
+	}
+
+	@Test
+	void drainWithNothingInFlightWritesNoCheckpoint() {
+		coordinator.register(List.of(1L, 2L));
+		coordinator.complete(1L);
+		coordinator.complete(2L);
+
+		coordinator.drain();
+
+		assertThat(coordinator.isAdmitting()).isFalse();
+		verify(checkpointRepository, never()).saveAll(anyList());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void drainCheckpointsItemsStillInFlightAfterDeadline() {
+		coordinator.register(List.of(1L, 2L, 3L));
+		coordinator.complete(2L);
+
+		coordinator.drain();
+
+		assertThat(coordinator.shouldStop()).isTrue();
+		ArgumentCaptor<List<ProcessingCheckpoint>> captor = ArgumentCaptor.forClass(List.class);
+		verify(checkpointRepository).saveAll(captor.capture());
+		assertThat(captor.getValue())
+				.extracting(ProcessingCheckpoint::getItemId)
+				.containsExactlyInAnyOrder(1L, 3L);
+	}
+
+	@Test
+	void drainRunsOnceAndKeepsItsDeadline() {
+		coordinator.register(List.of(1L));
+
+		coordinator.drain();
+		assertThat(coordinator.shouldStop()).isTrue();
+
+		// A second drain, e.g. the context closing after a test drained it, changes nothing
+		coordinator.drain();
+		assertThat(coordinator.shouldStop()).isTrue();
+		verify(checkpointRepository, times(1)).saveAll(anyList());
+	}
+
+	@Test
+	void ignoresOtherContextsClosing() {
+		ApplicationContext ownContext = mock(ApplicationContext.class);
+		ReflectionTestUtils.setField(coordinator, "applicationContext", ownContext);
+
+		coordinator.onContextClosed(new ContextClosedEvent(mock(ApplicationContext.class)));
+		assertThat(coordinator.isAdmitting()).isTrue();
+
+		coordinator.onContextClosed(new ContextClosedEvent(ownContext));
+		assertThat(coordinator.isAdmitting()).isFalse();
+	}
+
+	@Test
+	void rejectsNewWorkOnceDraining() {
+		coordinator.drain();
+
+		assertThatThrownBy(() -> coordinator.register(List.of(4L)))
+				.isInstanceOf(IllegalStateException.class);
+	}
+}
@@ -0,0 +1,145 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ProcessingCheckpoint;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingCheckpointRepository;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingDrainCoordinator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+//Drain, checkpoint and resume of item processing against the real service and repositories
+//Draining is irreversible for a context, so every test gets a fresh one
+@SpringBootTest(properties = "items.processing.drain-timeout-ms=300")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ProcessingResumeTests {
+
+	@Autowired
+	private ItemService itemService;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private ProcessingCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private ProcessingDrainCoordinator drainCoordinator;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@AfterEach
+	public void cleanup() {
+		checkpointRepository.deleteAll();
+		itemRepository.deleteAll();
+	}
+
+	@Test
+	void resumesCheckpointedItems() {
+		List<Long> ids = createItems(3);
+		checkpoint(ids);
+
+		int resumed = itemService.resumeCheckpointedItems();
+
+		assertThat(resumed).isEqualTo(3);
+		assertThat(checkpointRepository.count()).isZero();
+		for (Long id : ids) {
+			assertThat(itemRepository.findById(id).orElseThrow().getStatus()).isEqualTo("PROCESSED");
+		}
+	}
+
+	@Test
+	void drainDuringResumeLosesNoItem() throws Exception {
+		// Four chunks of ten items at 100 ms each take about a second, far past the drain deadline
+		List<Long> ids = createItems(40);
+		checkpoint(ids);
+
+		CompletableFuture<Integer> resume = CompletableFuture.supplyAsync(itemService::resumeCheckpointedItems);
+		Thread.sleep(150);
+		drainCoordinator.drain();
+		int resumed = resume.get(30, TimeUnit.SECONDS);
+
+		Set<Long> checkpointed = new HashSet<>();
+		checkpointRepository.findAll().forEach(c -> checkpointed.add(c.getItemId()));
+
+		// The drain cut the resume short and the skipped items were checkpointed again
+		assertThat(resumed).isLessThan(ids.size());
+		assertThat(checkpointed).isNotEmpty();
+
+		// Every item is either processed or still checkpointed for the next instance
+		for (Long id : ids) {
+			boolean processed = "PROCESSED".equals(itemRepository.findById(id).orElseThrow().getStatus());
+			assertThat(processed || checkpointed.contains(id))
+					.as("item %d is neither processed nor checkpointed", id)
+					.isTrue();
+		}
+	}
+
+	@Test
+	void processIsRejectedWhileDraining() throws Exception {
+		drainCoordinator.drain();
+
+		mockMvc.perform(get("/api/items/process"))
+				.andExpect(status().isServiceUnavailable());
+	}
+
+	@Test
+	void processBatchSkipsItemsAfterDrainDeadline() throws Exception {
+		// A single chunk of ten items at 100 ms each, so the deadline lands mid-batch
+		List<Long> ids = createItems(10);
+
+		CompletableFuture<ItemService.BatchResult> batch = CompletableFuture.supplyAsync(() -> itemService.processBatch(ids, 1));
+		Thread.sleep(100);
+		drainCoordinator.drain();
+		ItemService.BatchResult result = batch.get(30, TimeUnit.SECONDS);
+
+		// Only the items started before the deadline were attempted, in order
+		assertThat(result.completedIds()).isNotEmpty().hasSizeLessThan(ids.size());
+		assertThat(result.completedIds()).isEqualTo(ids.subList(0, result.completedIds().size()));
+		assertThat(result.processedItems()).hasSameSizeAs(result.completedIds());
+
+		// The skipped items were left in flight and checkpointed by the drain
+		Set<Long> checkpointed = new HashSet<>();
+		checkpointRepository.findAll().forEach(c -> checkpointed.add(c.getItemId()));
+		for (Long id : ids.subList(result.completedIds().size(), ids.size())) {
+			assertThat(checkpointed).contains(id);
+			assertThat(itemRepository.findById(id).orElseThrow().getStatus()).isEqualTo("NEW");
+		}
+	}
+
+	private List<Long> createItems(int count) {
+		List<Item> items = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			items.add(new Item(null, "Item " + i, "Resume test item", "NEW", "item" + i + "@siemens.com"));
+		}
+		return itemRepository.saveAll(items).stream().map(Item::getId).toList();
+	}
+
+	private void checkpoint(List<Long> ids) {
+		Instant now = Instant.now();
+		checkpointRepository.saveAll(ids.stream().map(id -> new ProcessingCheckpoint(id, now)).toList());
+	}
+}
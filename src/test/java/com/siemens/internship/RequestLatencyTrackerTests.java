@@ -0,0 +1,78 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.siemens.internship.config.RequestLatencyTracker;
+import com.siemens.internship.service.AdaptiveBatchPolicy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+class RequestLatencyTrackerTests {
+
+	private final AtomicLong now = new AtomicLong();
+	private RequestLatencyTracker tracker;
+
+	@BeforeEach
+	void setUp() {
+		tracker = new RequestLatencyTracker();
+		ReflectionTestUtils.setField(tracker, "halfLifeMs", 1000L);
+		ReflectionTestUtils.setField(tracker, "nanoClock", (LongSupplier) now::get);
+	}
+
+	private void advanceMs(long ms) {
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+	}
+
+	@Test
+	void reportsNoSamplesUntilFirstRequest() {
+		assertThat(tracker.hasSamples()).isFalse();
+		assertThat(tracker.getAverageLatencyMs()).isZero();
+
+		// A zero-latency first sample still counts as a sample
+		tracker.record(0);
+		assertThat(tracker.hasSamples()).isTrue();
+		tracker.record(100);
+		assertThat(tracker.getAverageLatencyMs()).isCloseTo(20, within(0.001));
+	}
+
+	@Test
+	void decaysWhileIdle() {
+		tracker.record(400);
+
+		advanceMs(1000);
+		assertThat(tracker.getAverageLatencyMs()).isCloseTo(200, within(0.001));
+
+		advanceMs(2000);
+		assertThat(tracker.getAverageLatencyMs()).isCloseTo(50, within(0.001));
+	}
+
+	@Test
+	void newSampleAfterIdleOutweighsStaleAverage() {
+		tracker.record(1000);
+		advanceMs(10_000);
+
+		tracker.record(50);
+		assertThat(tracker.getAverageLatencyMs()).isCloseTo(50, within(1.0));
+	}
+
+	@Test
+	void policyRecoversAfterSlowBurstFollowedByIdleTraffic() {
+		AdaptiveBatchPolicy policy = new AdaptiveBatchPolicy(10, 100, 10, 1, 4, 1000, 200, 0.75);
+		for (int i = 0; i < 5; i++) {
+			tracker.record(1000);
+		}
+		policy.onBatchCompleted(500, tracker.getAverageLatencyMs(), 0.1);
+		assertThat(policy.getBatchSize()).isEqualTo(10);
+
+		advanceMs(5000);
+		policy.onBatchCompleted(500, tracker.getAverageLatencyMs(), 0.1);
+		assertThat(policy.getBatchSize()).isEqualTo(20);
+	}
+}
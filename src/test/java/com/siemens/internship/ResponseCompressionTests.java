@@ -0,0 +1,68 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+//Gzip response compression, which is off by default and enabled here the way a deployment would opt in
+//Runs against the embedded server, since compression is applied by the servlet container
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "server.compression.enabled=true")
+@ActiveProfiles("test")
+class ResponseCompressionTests {
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@AfterEach
+	public void cleanup() {
+		itemRepository.deleteAll();
+	}
+
+	@Test
+	void compressesResponsesAboveMinimumSize() throws Exception {
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			items.add(new Item(null, "Item " + i, "A description long enough to push the list past two kilobytes",
+					"NEW", "item" + i + "@siemens.com"));
+		}
+		itemRepository.saveAll(items);
+
+		ResponseEntity<byte[]> response = getItems();
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+			Item[] decoded = objectMapper.readValue(body, Item[].class);
+			assertThat(decoded).hasSize(30);
+		}
+	}
+
+	private ResponseEntity<byte[]> getItems() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+		headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		return restTemplate.exchange("/api/items", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+	}
+}
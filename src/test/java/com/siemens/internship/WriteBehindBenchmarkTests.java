@@ -0,0 +1,161 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.WriteBehindBuffer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Benchmark of sustained status update throughput, with and without the write-behind buffer
+//The direct path reads and saves through the repository, which is what ItemService does with the buffer disabled
+//Each thread owns a disjoint set of hot items, so the last write to every item is known and checked after the flush
+@SpringBootTest(properties = "items.write-behind.enabled=true")
+@ActiveProfiles("test")
+class WriteBehindBenchmarkTests {
+
+	private static final int ITEM_COUNT = 200;
+	private static final int THREADS = 8;
+	private static final int UPDATES_PER_THREAD = 2_000;
+
+	@Autowired
+	private ItemService itemService;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private WriteBehindBuffer writeBehindBuffer;
+
+	@AfterEach
+	public void cleanup() {
+		writeBehindBuffer.flush();
+		itemRepository.deleteAll();
+	}
+
+	@Test
+	void compareUpdateThroughput() throws Exception {
+		List<Long> ids = createItems();
+
+		// Warm up both paths before measuring
+		runUpdates(ids, false, 200);
+		runUpdates(ids, true, 200);
+
+		Map<Long, String> directLastWrites = new ConcurrentHashMap<>();
+		double direct = runUpdates(ids, false, UPDATES_PER_THREAD, directLastWrites);
+		assertLastWritesPersisted(directLastWrites);
+
+		Map<Long, String> bufferedLastWrites = new ConcurrentHashMap<>();
+		double buffered = runUpdates(ids, true, UPDATES_PER_THREAD, bufferedLastWrites);
+		assertLastWritesPersisted(bufferedLastWrites);
+
+		System.out.printf("%-14s %14s%n", "mode", "updates/s");
+		System.out.printf("%-14s %14.0f%n", "direct", direct);
+		System.out.printf("%-14s %14.0f%n", "write-behind", buffered);
+
+		assertThat(writeBehindBuffer.getPendingCount()).isZero();
+	}
+
+	@Test
+	void readsSeeBufferedUpdatesBeforeFlush() {
+		List<Long> ids = createItems();
+
+		Item item = itemService.findById(ids.get(0)).orElseThrow();
+		item.setStatus("BUFFERED");
+		itemService.save(item);
+
+		assertThat(itemRepository.findById(ids.get(0)).orElseThrow().getStatus()).isEqualTo("NEW");
+		assertThat(itemService.findById(ids.get(0)).orElseThrow().getStatus()).isEqualTo("BUFFERED");
+		assertThat(itemService.findAll())
+				.filteredOn(i -> i.getId().equals(ids.get(0)))
+				.extracting(Item::getStatus)
+				.containsExactly("BUFFERED");
+
+		writeBehindBuffer.flush();
+		assertThat(itemRepository.findById(ids.get(0)).orElseThrow().getStatus()).isEqualTo("BUFFERED");
+	}
+
+	private double runUpdates(List<Long> ids, boolean writeBehind, int updatesPerThread) throws Exception {
+		return runUpdates(ids, writeBehind, updatesPerThread, new ConcurrentHashMap<>());
+	}
+
+	//Runs the update load and returns the sustained throughput, including the final flush
+	//Records the last status each thread wrote to each of its items
+	private double runUpdates(List<Long> ids, boolean writeBehind, int updatesPerThread,
+							  Map<Long, String> lastWrites) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch done = new CountDownLatch(THREADS);
+
+		long start = System.nanoTime();
+		for (int t = 0; t < THREADS; t++) {
+			List<Long> owned = ownedBy(ids, t);
+			int thread = t;
+			pool.execute(() -> {
+				try {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < updatesPerThread; i++) {
+						Long id = owned.get(random.nextInt(owned.size()));
+						String status = "STATUS-" + thread + "-" + i;
+						if (writeBehind) {
+							Item item = itemService.findById(id).orElseThrow();
+							item.setStatus(status);
+							itemService.save(item);
+						} else {
+							Item item = itemRepository.findById(id).orElseThrow();
+							item.setStatus(status);
+							itemRepository.save(item);
+						}
+						lastWrites.put(id, status);
+					}
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		assertThat(done.await(5, TimeUnit.MINUTES)).isTrue();
+		writeBehindBuffer.flush();
+		long elapsed = System.nanoTime() - start;
+		pool.shutdown();
+
+		return (double) THREADS * updatesPerThread / (elapsed / 1_000_000_000.0);
+	}
+
+	//After the flush every item holds exactly the last status written to it
+	private void assertLastWritesPersisted(Map<Long, String> lastWrites) {
+		assertThat(lastWrites).isNotEmpty();
+		lastWrites.forEach((id, status) ->
+				assertThat(itemRepository.findById(id).orElseThrow().getStatus()).as("item %d", id).isEqualTo(status));
+	}
+
+	private static List<Long> ownedBy(List<Long> ids, int thread) {
+		List<Long> owned = new ArrayList<>();
+		for (int i = thread; i < ids.size(); i += THREADS) {
+			owned.add(ids.get(i));
+		}
+		return owned;
+	}
+
+	private List<Long> createItems() {
+		List<Item> items = new ArrayList<>(ITEM_COUNT);
+		for (int i = 0; i < ITEM_COUNT; i++) {
+			items.add(new Item(null, "Item " + i, "Write-behind benchmark item", "NEW", "item" + i + "@siemens.com"));
+		}
+		return itemRepository.saveAll(items).stream().map(Item::getId).toList();
+	}
+}
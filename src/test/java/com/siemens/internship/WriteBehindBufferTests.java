@@ -0,0 +1,231 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.WriteBehindBuffer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+class WriteBehindBufferTests {
+
+	private ItemRepository itemRepository;
+	private WriteBehindBuffer buffer;
+	private Item managed;
+
+	@BeforeEach
+	void setUp() {
+		itemRepository = mock(ItemRepository.class);
+		buffer = new WriteBehindBuffer();
+		ReflectionTestUtils.setField(buffer, "itemRepository", itemRepository);
+		ReflectionTestUtils.setField(buffer, "transactionTemplate",
+				new TransactionTemplate(mock(PlatformTransactionManager.class)));
+		ReflectionTestUtils.setField(buffer, "taskExecutor", new SyncTaskExecutor());
+		ReflectionTestUtils.invokeMethod(buffer, "init");
+
+		// The row as the database holds it
+		managed = item("NEW");
+	}
+
+	private static Item item(String status) {
+		return new Item(1L, "Item 1", "Buffered item", status, "item1@siemens.com");
+	}
+
+	@Test
+	void coalescesUpdatesToLastWrite() {
+		when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(managed));
+
+		buffer.put(item("FIRST"));
+		buffer.put(item("SECOND"));
+
+		assertThat(buffer.getPendingCount()).isEqualTo(1);
+		assertThat(buffer.get(1L)).map(Item::getStatus).contains("SECOND");
+
+		buffer.flush();
+
+		assertThat(managed.getStatus()).isEqualTo("SECOND");
+		assertThat(buffer.getPendingCount()).isZero();
+		assertThat(buffer.get(1L)).isEmpty();
+		verify(itemRepository, times(1)).findAllById(anyIterable());
+	}
+
+	@Test
+	void flushWritesEveryColumnButTheId() {
+		when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(managed));
+
+		buffer.put(new Item(1L, "Renamed", "New description", "UPDATED", "renamed@siemens.com"));
+		buffer.flush();
+
+		assertThat(managed.getId()).isEqualTo(1L);
+		assertThat(managed.getName()).isEqualTo("Renamed");
+		assertThat(managed.getDescription()).isEqualTo("New description");
+		assertThat(managed.getStatus()).isEqualTo("UPDATED");
+		assertThat(managed.getEmail()).isEqualTo("renamed@siemens.com");
+	}
+
+	@Test
+	void bufferedCopyIsIsolatedFromCaller() {
+		Item update = item("BUFFERED");
+		buffer.put(update);
+		update.setStatus("CHANGED AFTER PUT");
+
+		assertThat(buffer.get(1L)).map(Item::getStatus).contains("BUFFERED");
+	}
+
+	@Test
+	void discardDropsBufferedUpdate() {
+		buffer.put(item("DELETED"));
+
+		buffer.discard(1L);
+		buffer.flush();
+
+		assertThat(buffer.getPendingCount()).isZero();
+		assertThat(buffer.get(1L)).isEmpty();
+		verify(itemRepository, never()).findAllById(anyIterable());
+	}
+
+	@Test
+	void failedFlushRequeuesUpdates() {
+		when(itemRepository.findAllById(anyIterable()))
+				.thenThrow(new RuntimeException("Database unavailable"))
+				.thenReturn(List.of(managed));
+
+		buffer.put(item("RETRIED"));
+		buffer.flush();
+
+		// Still buffered and visible to reads after the failed transaction
+		assertThat(managed.getStatus()).isEqualTo("NEW");
+		assertThat(buffer.getPendingCount()).isEqualTo(1);
+		assertThat(buffer.get(1L)).map(Item::getStatus).contains("RETRIED");
+
+		buffer.flush();
+
+		assertThat(managed.getStatus()).isEqualTo("RETRIED");
+		assertThat(buffer.getPendingCount()).isZero();
+	}
+
+	@Test
+	void flushAndCloseWritesPendingUpdatesAndFlushesLaterWritesInline() {
+		when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(managed));
+
+		buffer.put(item("BEFORE CLOSE"));
+		buffer.flushAndClose();
+
+		assertThat(managed.getStatus()).isEqualTo("BEFORE CLOSE");
+		assertThat(buffer.getPendingCount()).isZero();
+
+		// Once closed a write is persisted before put returns
+		buffer.put(item("AFTER CLOSE"));
+		assertThat(managed.getStatus()).isEqualTo("AFTER CLOSE");
+		assertThat(buffer.getPendingCount()).isZero();
+	}
+
+	@Test
+	void writeAfterCloseIsNotOverwrittenByOlderUpdate() throws Exception {
+		CountDownLatch flushStarted = new CountDownLatch(1);
+		CountDownLatch releaseFlush = new CountDownLatch(1);
+		// The first flush stalls mid-transaction holding the older update
+		when(itemRepository.findAllById(anyIterable()))
+				.thenAnswer(invocation -> {
+					flushStarted.countDown();
+					releaseFlush.await(5, TimeUnit.SECONDS);
+					return List.of(managed);
+				})
+				.thenReturn(List.of(managed));
+
+		ExecutorService threads = Executors.newFixedThreadPool(3);
+		buffer.put(item("OLDER"));
+		CompletableFuture<Void> backgroundFlush = CompletableFuture.runAsync(buffer::flush, threads);
+		assertThat(flushStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// Shutdown closes the buffer while the older update is still being committed
+		CompletableFuture<Void> close = CompletableFuture.runAsync(buffer::flushAndClose, threads);
+		waitFor(() -> (boolean) ReflectionTestUtils.getField(buffer, "closed"));
+
+		CompletableFuture<Void> write = CompletableFuture.runAsync(() -> buffer.put(item("NEWER")), threads);
+		waitFor(() -> buffer.getPendingCount() == 1);
+
+		// Reads see the newer update, and the write waits for the older flush instead of racing it
+		assertThat(buffer.get(1L)).map(Item::getStatus).contains("NEWER");
+		Thread.sleep(50);
+		assertThat(write).isNotDone();
+
+		releaseFlush.countDown();
+		CompletableFuture.allOf(backgroundFlush, close, write).get(5, TimeUnit.SECONDS);
+		threads.shutdown();
+
+		assertThat(managed.getStatus()).isEqualTo("NEWER");
+		assertThat(buffer.getPendingCount()).isZero();
+		assertThat(buffer.get(1L)).isEmpty();
+	}
+
+	@Test
+	void closesOnlyWhenItsOwnContextCloses() {
+		when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(managed));
+		ApplicationContext ownContext = mock(ApplicationContext.class);
+		ReflectionTestUtils.setField(buffer, "applicationContext", ownContext);
+
+		// A child context closing leaves the buffer open, so updates stay buffered
+		buffer.onContextClosed(new ContextClosedEvent(mock(ApplicationContext.class)));
+		buffer.put(item("STILL BUFFERED"));
+		assertThat(buffer.getPendingCount()).isEqualTo(1);
+		assertThat(managed.getStatus()).isEqualTo("NEW");
+
+		buffer.onContextClosed(new ContextClosedEvent(ownContext));
+		assertThat(buffer.getPendingCount()).isZero();
+		assertThat(managed.getStatus()).isEqualTo("STILL BUFFERED");
+	}
+
+	@Test
+	void flushAndCloseWritesThroughWhenFinalFlushFails() {
+		when(itemRepository.findAllById(anyIterable())).thenThrow(new RuntimeException("Batch update failed"));
+		when(itemRepository.findById(1L)).thenReturn(Optional.of(managed));
+
+		buffer.put(item("WRITTEN THROUGH"));
+		buffer.flushAndClose();
+
+		verify(itemRepository).save(managed);
+		assertThat(managed.getStatus()).isEqualTo("WRITTEN THROUGH");
+		assertThat(buffer.getPendingCount()).isZero();
+	}
+
+	@Test
+	void flushAndCloseFailsLoudlyWhenUpdatesCannotBeWritten() {
+		when(itemRepository.findAllById(anyIterable())).thenThrow(new RuntimeException("Batch update failed"));
+		when(itemRepository.findById(1L)).thenThrow(new RuntimeException("Database unavailable"));
+
+		buffer.put(item("LOST"));
+
+		assertThatThrownBy(() -> buffer.flushAndClose())
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("[1]");
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!condition.getAsBoolean()) {
+			assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(5);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.siemens.internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.ItemProcessingScheduler;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingDrainCoordinator;
+import com.siemens.internship.service.WriteBehindBuffer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+//The time-based write-behind flush must keep running while the scheduler drains a long backlog
+//Sixty items in batches of ten at one item per 100 ms keep the scheduler busy for about six seconds
+@SpringBootTest(properties = {
+		"items.write-behind.enabled=true",
+		"items.write-behind.flush-interval-ms=200",
+		"items.processing.scheduler.enabled=true",
+		"items.processing.scheduler.initial-delay-ms=0",
+		"items.processing.scheduler.interval-ms=100",
+		"items.processing.scheduler.min-batch-size=10",
+		"items.processing.scheduler.max-batch-size=10",
+		"items.processing.scheduler.max-concurrency=1",
+		"items.processing.drain-timeout-ms=100"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+class WriteBehindFlushTimerTests {
+
+	private static final int ITEM_COUNT = 60;
+
+	@Autowired
+	private ItemService itemService;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private ItemProcessingScheduler itemProcessingScheduler;
+
+	@Autowired
+	private ProcessingDrainCoordinator drainCoordinator;
+
+	@Autowired
+	private WriteBehindBuffer writeBehindBuffer;
+
+	@AfterEach
+	public void cleanup() throws Exception {
+		itemProcessingScheduler.pause();
+		waitFor(() -> drainCoordinator.getInFlightCount() == 0, 10_000);
+		writeBehindBuffer.flush();
+		itemRepository.deleteAll();
+	}
+
+	@Test
+	void timeTriggerFlushesWhileDrainIsRunning() throws Exception {
+		List<Item> items = new ArrayList<>(ITEM_COUNT);
+		for (int i = 0; i < ITEM_COUNT; i++) {
+			items.add(new Item(null, "Item " + i, "Backlog item", "NEW", "item" + i + "@siemens.com"));
+		}
+		List<Long> ids = itemRepository.saveAll(items).stream().map(Item::getId).toList();
+		Long lastId = ids.get(ids.size() - 1);
+
+		// Wait for the scheduler thread to start draining the backlog
+		assertThat(waitFor(() -> drainCoordinator.getInFlightCount() > 0, 5_000)).isTrue();
+
+		// Buffer an update to the item the drain reaches last; far below the size trigger
+		Item last = itemService.findById(lastId).orElseThrow();
+		last.setDescription("Updated while draining");
+		itemService.save(last);
+
+		// The interval flush writes it long before the drain gets to the last item
+		assertThat(waitFor(() -> "Updated while draining".equals(
+				itemRepository.findById(lastId).orElseThrow().getDescription()), 2_000)).isTrue();
+		assertThat(itemRepository.findById(lastId).orElseThrow().getStatus()).isEqualTo("NEW");
+	}
+
+	private static boolean waitFor(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMs;
+		while (System.currentTimeMillis() < deadline) {
+			if (condition.getAsBoolean()) {
+				return true;
+			}
+			Thread.sleep(20);
+		}
+		return condition.getAsBoolean();
+	}
+}